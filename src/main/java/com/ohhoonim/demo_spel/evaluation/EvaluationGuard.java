@@ -0,0 +1,273 @@
+package com.ohhoonim.demo_spel.evaluation;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.expression.EvaluationException;
+
+/*
+ * 평가 한 건의 deadline과 collection 크기 제한을 검사한다.
+ *
+ * SpEL의 selection(.?[]), projection(.![])은 중간에 끊을 수 있는 지점이 없기 때문에
+ * 표현식이 읽는 collection/map을 감싸서 요소를 하나 꺼낼 때마다 check()를 호출한다.
+ * 꺼낸 요소가 collection/map이면 그것도 감싸므로 #lists[0].?[...] 같은 중첩 순회도 검사된다.
+ *
+ * 감싼 객체는 이 평가의 guard를 들고 있으므로 결과를 돌려주기 전에 unwrap()으로 벗겨야 한다.
+ */
+final class EvaluationGuard {
+
+    private final String expressionString;
+    private final Duration timeout;
+    private final long deadlineNanos;
+    private final int maxCollectionSize;
+
+    EvaluationGuard(String expressionString, Duration timeout, int maxCollectionSize) {
+        this.expressionString = expressionString;
+        this.timeout = timeout;
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+        this.maxCollectionSize = maxCollectionSize;
+    }
+
+    void check() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new EvaluationException(expressionString, "Evaluation cancelled");
+        }
+        if (System.nanoTime() - deadlineNanos > 0) {
+            throw new EvaluationTimeoutException(expressionString, timeout);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    Object guard(Object value) {
+        return switch (value) {
+            case null -> null;
+            case Guarded guarded -> guarded;
+            case List<?> list -> new GuardedList<>(checkSize(list.size(), list), this);
+            case Set<?> set -> new GuardedSet<>(checkSize(set.size(), set), this);
+            case Collection<?> collection -> new GuardedCollection<>(checkSize(collection.size(), collection), this);
+            case Map<?, ?> map -> new GuardedMap<>((Map<Object, Object>) checkSize(map.size(), map), this);
+            default -> value.getClass().isArray() ? checkSize(Array.getLength(value), value) : value;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> E guardElement(E element) {
+        return (E) guard(element);
+    }
+
+    // 결과에서 guard를 모두 벗긴다. 평가 스레드에서 deadline 전에 호출해야 한다.
+    // 감싼 객체의 원본도 subList 같은 guard 위의 view일 수 있으므로, 결과 collection은 모두 복사본이 된다
+    static Object unwrap(Object value) {
+        return switch (value) {
+            case null -> null;
+            case Guarded guarded -> unwrap(guarded.delegate());
+            case List<?> list -> {
+                var copy = new ArrayList<Object>(list.size());
+                list.forEach(element -> copy.add(unwrap(element)));
+                yield copy;
+            }
+            case Set<?> set -> {
+                var copy = new LinkedHashSet<Object>(set.size());
+                set.forEach(element -> copy.add(unwrap(element)));
+                yield copy;
+            }
+            case Collection<?> collection -> {
+                var copy = new ArrayList<Object>(collection.size());
+                collection.forEach(element -> copy.add(unwrap(element)));
+                yield copy;
+            }
+            case Map<?, ?> map -> {
+                var copy = new LinkedHashMap<Object, Object>(map.size());
+                map.forEach((key, element) -> copy.put(unwrap(key), unwrap(element)));
+                yield copy;
+            }
+            case Object[] array -> {
+                var copy = (Object[]) Array.newInstance(array.getClass().getComponentType(), array.length);
+                for (int i = 0; i < array.length; i++) {
+                    copy[i] = unwrap(array[i]);
+                }
+                yield copy;
+            }
+            default -> value;
+        };
+    }
+
+    private <T> T checkSize(int size, T value) {
+        if (size > maxCollectionSize) {
+            throw new EvaluationException(expressionString,
+                    "Collection size " + size + " exceeds limit " + maxCollectionSize);
+        }
+        return value;
+    }
+
+    private interface Guarded {
+        Object delegate();
+    }
+
+    private static final class GuardedIterator<E> implements Iterator<E> {
+        private final Iterator<E> delegate;
+        private final EvaluationGuard guard;
+
+        private GuardedIterator(Iterator<E> delegate, EvaluationGuard guard) {
+            this.delegate = delegate;
+            this.guard = guard;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public E next() {
+            guard.check();
+            return guard.guardElement(delegate.next());
+        }
+    }
+
+    private static final class GuardedList<E> extends AbstractList<E> implements Guarded {
+        private final List<E> delegate;
+        private final EvaluationGuard guard;
+
+        private GuardedList(List<E> delegate, EvaluationGuard guard) {
+            this.delegate = delegate;
+            this.guard = guard;
+        }
+
+        @Override
+        public E get(int index) {
+            guard.check();
+            return guard.guardElement(delegate.get(index));
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            // LinkedList 등은 get(index)가 O(n)이라 원본 iterator를 사용한다
+            return new GuardedIterator<>(delegate.iterator(), guard);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public Object delegate() {
+            return delegate;
+        }
+    }
+
+    private static final class GuardedSet<E> extends AbstractSet<E> implements Guarded {
+        private final Set<E> delegate;
+        private final EvaluationGuard guard;
+
+        private GuardedSet(Set<E> delegate, EvaluationGuard guard) {
+            this.delegate = delegate;
+            this.guard = guard;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new GuardedIterator<>(delegate.iterator(), guard);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return delegate.contains(o);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public Object delegate() {
+            return delegate;
+        }
+    }
+
+    private static final class GuardedCollection<E> extends AbstractCollection<E> implements Guarded {
+        private final Collection<E> delegate;
+        private final EvaluationGuard guard;
+
+        private GuardedCollection(Collection<E> delegate, EvaluationGuard guard) {
+            this.delegate = delegate;
+            this.guard = guard;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new GuardedIterator<>(delegate.iterator(), guard);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public Object delegate() {
+            return delegate;
+        }
+    }
+
+    private static final class GuardedMap<K, V> extends AbstractMap<K, V> implements Guarded {
+        private final Map<K, V> delegate;
+        private final EvaluationGuard guard;
+
+        private GuardedMap(Map<K, V> delegate, EvaluationGuard guard) {
+            this.delegate = delegate;
+            this.guard = guard;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new GuardedSet<>(delegate.entrySet(), guard);
+        }
+
+        // AbstractMap 기본 구현은 entrySet을 순회하므로 조회는 원본에 맡긴다
+        @Override
+        public V get(Object key) {
+            guard.check();
+            return guard.guardElement(delegate.get(key));
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return delegate.containsKey(key);
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return new GuardedSet<>(delegate.keySet(), guard);
+        }
+
+        @Override
+        public Collection<V> values() {
+            return new GuardedCollection<>(delegate.values(), guard);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public Object delegate() {
+            return delegate;
+        }
+    }
+}
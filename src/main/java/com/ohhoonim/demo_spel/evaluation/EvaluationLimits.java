@@ -0,0 +1,32 @@
+package com.ohhoonim.demo_spel.evaluation;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/*
+ * EvaluationService 한 번의 호출에 적용되는 제한
+ * - timeout : 호출당 deadline
+ * - maxCollectionSize : 표현식이 읽을 수 있는 collection/map/배열의 최대 크기
+ * - maxExpressionLength : 파싱할 수 있는 표현식의 최대 길이
+ * - maxPendingEvaluations : 대기중 + 실행중인 평가의 최대 개수. 넘으면 거절된다
+ */
+public record EvaluationLimits(
+        Duration timeout,
+        int maxCollectionSize,
+        int maxExpressionLength,
+        int maxPendingEvaluations) {
+
+    public EvaluationLimits {
+        Objects.requireNonNull(timeout, "Timeout cannot be null");
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive: " + timeout);
+        }
+        if (maxCollectionSize < 0 || maxExpressionLength <= 0 || maxPendingEvaluations <= 0) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+    }
+
+    public static EvaluationLimits defaults() {
+        return new EvaluationLimits(Duration.ofMillis(100), 10_000, 1_000, 256);
+    }
+}
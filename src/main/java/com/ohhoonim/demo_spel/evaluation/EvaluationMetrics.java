@@ -0,0 +1,14 @@
+package com.ohhoonim.demo_spel.evaluation;
+
+/*
+ * EvaluationService의 현재 상태
+ * pending : 큐에서 대기중이거나 실행중인 평가 수 (queue depth)
+ */
+public record EvaluationMetrics(
+        int pending,
+        long submitted,
+        long completed,
+        long failed,
+        long timedOut,
+        long rejected) {
+}
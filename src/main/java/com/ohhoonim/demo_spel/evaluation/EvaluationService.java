@@ -0,0 +1,182 @@
+package com.ohhoonim.demo_spel.evaluation;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.DataBindingMethodResolver;
+import org.springframework.expression.spel.support.DataBindingPropertyAccessor;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+
+/*
+ * 사용자가 입력한 표현식을 요청 스레드가 아닌 전용 executor에서 평가한다.
+ *
+ * - 호출마다 deadline(EvaluationLimits.timeout)이 있고, 넘으면 EvaluationTimeoutException
+ * - property 읽기, 메소드 호출, collection/map 인덱스 조회와 selection/projection 순회 중에
+ *   deadline/interrupt를 확인한다 (EvaluationGuard)
+ * - 너무 큰 collection, 너무 긴 표현식은 거절한다
+ * - 대기중 + 실행중인 평가가 maxPendingEvaluations를 넘으면 RejectedExecutionException.
+ *   timeout 후에도 interrupt를 무시하고 계속 실행중인 작업은 끝날 때까지 pending에 포함된다
+ *
+ * SimpleEvaluationContext(읽기 전용)를 사용하므로 T(), 객체 생성자는 사용할 수 없다.
+ * 객체 배열은 크기만 검사하며, 배열 인덱스로 꺼낸 요소는 감싸지 않는다.
+ * new int[100000000] 같은 큰 배열, 'x' * 1000000000 같은 문자열 반복은 SpEL 자체 제한에 걸린다.
+ */
+public class EvaluationService implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final EvaluationLimits limits;
+    private final ExpressionParser parser;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    // executor는 이 서비스가 소유한다. close() 시 종료된다
+    public EvaluationService(ExecutorService executor, EvaluationLimits limits) {
+        this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+        this.limits = Objects.requireNonNull(limits, "Limits cannot be null");
+        this.parser = new SpelExpressionParser(new SpelParserConfiguration(
+                SpelCompilerMode.OFF, null, false, false, 0, limits.maxExpressionLength()));
+    }
+
+    public static EvaluationService ofVirtualThreads(EvaluationLimits limits) {
+        return new EvaluationService(Executors.newVirtualThreadPerTaskExecutor(), limits);
+    }
+
+    public static EvaluationService ofForkJoin(int parallelism, EvaluationLimits limits) {
+        return new EvaluationService(new ForkJoinPool(parallelism), limits);
+    }
+
+    public <T> T evaluate(String expressionString, Object root, Class<T> type) {
+        return evaluate(expressionString, root, Map.of(), type);
+    }
+
+    public <T> T evaluate(String expressionString, Object root, Map<String, ?> variables, Class<T> type) {
+        var expression = parser.parseExpression(expressionString);
+
+        if (pending.incrementAndGet() > limits.maxPendingEvaluations()) {
+            pending.decrementAndGet();
+            rejected.increment();
+            throw new RejectedExecutionException(
+                    "Too many pending evaluations: " + limits.maxPendingEvaluations());
+        }
+        submitted.increment();
+
+        var guard = new EvaluationGuard(expressionString, limits.timeout(), limits.maxCollectionSize());
+        // 작업을 시작한 쪽(평가 스레드)이 끝날 때 pending을 줄인다.
+        // 시작 전에 timeout 되면 호출 스레드가 먼저 started를 가져가서 작업이 실행되지 않게 한다
+        var started = new AtomicBoolean();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return evaluate(expression, guard, root, variables, type);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            pending.decrementAndGet();
+            rejected.increment();
+            throw ex;
+        }
+
+        try {
+            var result = future.get(limits.timeout().toNanos(), TimeUnit.NANOSECONDS);
+            completed.increment();
+            return result;
+        } catch (TimeoutException ex) {
+            cancel(future, started);
+            timedOut.increment();
+            throw new EvaluationTimeoutException(expressionString, limits.timeout());
+        } catch (ExecutionException ex) {
+            // 평가 스레드의 EvaluationGuard가 deadline을 먼저 알아챈 경우 (SpEL 예외 안에 감싸져 있을 수 있다)
+            if (isTimeout(ex.getCause())) {
+                timedOut.increment();
+                throw new EvaluationTimeoutException(expressionString, limits.timeout());
+            }
+            failed.increment();
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new EvaluationException("Evaluation failed: " + expressionString, ex.getCause());
+        } catch (InterruptedException ex) {
+            cancel(future, started);
+            Thread.currentThread().interrupt();
+            throw new EvaluationException(expressionString, "Interrupted while waiting for evaluation");
+        }
+    }
+
+    public EvaluationMetrics metrics() {
+        return new EvaluationMetrics(
+                pending.get(),
+                submitted.sum(),
+                completed.sum(),
+                failed.sum(),
+                timedOut.sum(),
+                rejected.sum());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // 실행중인 작업은 interrupt만 하고, 끝날 때까지 pending에 남겨둔다
+    private void cancel(Future<?> future, AtomicBoolean started) {
+        future.cancel(true);
+        if (started.compareAndSet(false, true)) {
+            pending.decrementAndGet();
+        }
+    }
+
+    private static boolean isTimeout(Throwable ex) {
+        for (var cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof EvaluationTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T evaluate(Expression expression, EvaluationGuard guard,
+            Object root, Map<String, ?> variables, Class<T> type) {
+        // 큐에서 기다리는 동안 deadline이 지났을 수 있다
+        guard.check();
+
+        var accessor = new GuardedPropertyAccessor(DataBindingPropertyAccessor.forReadOnlyAccess(), guard);
+        var methodResolver = new GuardedMethodResolver(DataBindingMethodResolver.forInstanceMethodInvocation(), guard);
+        var context = SimpleEvaluationContext.forPropertyAccessors(accessor)
+                .withMethodResolvers(methodResolver)
+                .withRootObject(guard.guard(root))
+                .build();
+        variables.forEach((name, value) -> context.setVariable(name, guard.guard(value)));
+
+        return (T) EvaluationGuard.unwrap(expression.getValue(context, type));
+    }
+}
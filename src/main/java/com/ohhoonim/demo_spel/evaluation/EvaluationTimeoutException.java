@@ -0,0 +1,16 @@
+package com.ohhoonim.demo_spel.evaluation;
+
+import java.time.Duration;
+
+import org.springframework.expression.EvaluationException;
+
+/*
+ * EvaluationService의 deadline을 넘긴 경우.
+ * 평가 스레드(EvaluationGuard)와 호출 스레드(future.get) 중 어느 쪽이 먼저 알아채도 같은 예외가 된다.
+ */
+public class EvaluationTimeoutException extends EvaluationException {
+
+    public EvaluationTimeoutException(String expressionString, Duration timeout) {
+        super(expressionString, "Evaluation timed out after " + timeout.toMillis() + "ms");
+    }
+}
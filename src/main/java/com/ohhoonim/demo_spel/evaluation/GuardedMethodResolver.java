@@ -0,0 +1,54 @@
+package com.ohhoonim.demo_spel.evaluation;
+
+import java.util.List;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.expression.AccessException;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.MethodExecutor;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.TypedValue;
+
+/*
+ * 메소드를 호출할 때마다 deadline을 확인하고,
+ * 반환된 collection/map은 EvaluationGuard로 감싸서 돌려준다. (getMembers().?[...] 등)
+ *
+ * MethodReference는 찾은 executor를 AST에 캐시하므로 파싱된 표현식을 여러 평가에서 공유하면 안 된다.
+ * EvaluationService는 호출마다 표현식을 새로 파싱한다.
+ */
+final class GuardedMethodResolver implements MethodResolver {
+
+    private final MethodResolver delegate;
+    private final EvaluationGuard guard;
+
+    GuardedMethodResolver(MethodResolver delegate, EvaluationGuard guard) {
+        this.delegate = delegate;
+        this.guard = guard;
+    }
+
+    @Override
+    public MethodExecutor resolve(EvaluationContext context, Object targetObject, String name,
+            List<TypeDescriptor> argumentTypes) throws AccessException {
+        var executor = delegate.resolve(context, targetObject, name, argumentTypes);
+        return executor == null ? null : new GuardedMethodExecutor(executor, guard);
+    }
+
+    private static final class GuardedMethodExecutor implements MethodExecutor {
+        private final MethodExecutor delegate;
+        private final EvaluationGuard guard;
+
+        private GuardedMethodExecutor(MethodExecutor delegate, EvaluationGuard guard) {
+            this.delegate = delegate;
+            this.guard = guard;
+        }
+
+        @Override
+        public TypedValue execute(EvaluationContext context, Object target, Object... arguments)
+                throws AccessException {
+            guard.check();
+            var value = delegate.execute(context, target, arguments);
+            var guarded = guard.guard(value.getValue());
+            return guarded == value.getValue() ? value : new TypedValue(guarded, value.getTypeDescriptor());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ohhoonim.demo_spel.evaluation;
+
+import org.springframework.expression.AccessException;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypedValue;
+
+/*
+ * property를 읽을 때마다 deadline을 확인하고,
+ * 읽어온 collection/map은 EvaluationGuard로 감싸서 돌려준다.
+ */
+final class GuardedPropertyAccessor implements PropertyAccessor {
+
+    private final PropertyAccessor delegate;
+    private final EvaluationGuard guard;
+
+    GuardedPropertyAccessor(PropertyAccessor delegate, EvaluationGuard guard) {
+        this.delegate = delegate;
+        this.guard = guard;
+    }
+
+    @Override
+    public Class<?>[] getSpecificTargetClasses() {
+        return delegate.getSpecificTargetClasses();
+    }
+
+    @Override
+    public boolean canRead(EvaluationContext context, Object target, String name) throws AccessException {
+        return delegate.canRead(context, target, name);
+    }
+
+    @Override
+    public TypedValue read(EvaluationContext context, Object target, String name) throws AccessException {
+        guard.check();
+        var value = delegate.read(context, target, name);
+        var guarded = guard.guard(value.getValue());
+        return guarded == value.getValue() ? value : new TypedValue(guarded, value.getTypeDescriptor());
+    }
+
+    @Override
+    public boolean canWrite(EvaluationContext context, Object target, String name) throws AccessException {
+        return delegate.canWrite(context, target, name);
+    }
+
+    @Override
+    public void write(EvaluationContext context, Object target, String name, Object newValue)
+            throws AccessException {
+        guard.check();
+        delegate.write(context, target, name, newValue);
+    }
+}
@@ -0,0 +1,342 @@
+package com.ohhoonim.demo_spel.evaluation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.BooleanLiteral;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.InlineList;
+import org.springframework.expression.spel.ast.IntLiteral;
+import org.springframework.expression.spel.ast.LongLiteral;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpDivide;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.OpGE;
+import org.springframework.expression.spel.ast.OpGT;
+import org.springframework.expression.spel.ast.OpLE;
+import org.springframework.expression.spel.ast.OpLT;
+import org.springframework.expression.spel.ast.OpMinus;
+import org.springframework.expression.spel.ast.OpModulus;
+import org.springframework.expression.spel.ast.OpMultiply;
+import org.springframework.expression.spel.ast.OpNE;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.OpPlus;
+import org.springframework.expression.spel.ast.OperatorBetween;
+import org.springframework.expression.spel.ast.OperatorNot;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.RealLiteral;
+import org.springframework.expression.spel.ast.Ternary;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.util.ClassUtils;
+
+import com.ohhoonim.demo_spel.evaluation.PrimitiveNode.ArithmeticOperator;
+import com.ohhoonim.demo_spel.evaluation.PrimitiveNode.ComparisonOperator;
+import com.ohhoonim.demo_spel.evaluation.PrimitiveNode.Kind;
+
+/*
+ * 산술/관계/논리/between 표현식을 boxing 없이 평가하는 wrapper
+ *
+ * var expression = new PrimitiveExpression(parser.parseExpression("birthdate.year > 1900"), Inventor.class);
+ * boolean result = expression.evaluateBoolean(inventor);
+ *
+ * 숫자/boolean 리터럴, + - * / %, < > <= >= == !=, and or not, between, ?:,
+ * root 타입에서 시작해 primitive를 돌려주는 getter 체인(birthdate.year)은
+ * PrimitiveNode로 바꿔서 평가한다. 중간값이 Integer/Boolean/TypedValue로 만들어지지 않는다.
+ *
+ * 그 밖의 표현식(문자열, 메소드 호출, float ...)은 Expression.getValue()로 평가한다.
+ * 파서가 SpelCompilerMode로 컴파일하도록 설정되어 있으면 이 경우에도 컴파일된 코드가 사용된다.
+ */
+public final class PrimitiveExpression {
+
+    private final Expression expression;
+    private final Class<?> rootType;
+    private final PrimitiveNode node;
+
+    public PrimitiveExpression(Expression expression) {
+        this(expression, null);
+    }
+
+    public PrimitiveExpression(Expression expression, Class<?> rootType) {
+        this.expression = Objects.requireNonNull(expression, "Expression cannot be null");
+        this.rootType = rootType;
+        this.node = expression instanceof SpelExpression spel ? build(spel.getAST(), rootType) : null;
+    }
+
+    public Expression getExpression() {
+        return expression;
+    }
+
+    // false이면 모든 evaluateXxx 호출이 Expression.getValue()로 평가된다
+    public boolean isPrimitive() {
+        return node != null;
+    }
+
+    public boolean evaluateBoolean() {
+        return evaluateBoolean(null);
+    }
+
+    public boolean evaluateBoolean(Object root) {
+        if (accepts(root) && node.kind == Kind.BOOLEAN) {
+            return node.booleanValue(root);
+        }
+        return notNull(expression.getValue(root, Boolean.class));
+    }
+
+    public int evaluateInt() {
+        return evaluateInt(null);
+    }
+
+    public int evaluateInt(Object root) {
+        if (accepts(root) && node.kind == Kind.INT) {
+            return node.intValue(root);
+        }
+        return notNull(expression.getValue(root, Integer.class));
+    }
+
+    public long evaluateLong() {
+        return evaluateLong(null);
+    }
+
+    public long evaluateLong(Object root) {
+        if (accepts(root) && (node.kind == Kind.INT || node.kind == Kind.LONG)) {
+            return node.widenToLong(root);
+        }
+        return notNull(expression.getValue(root, Long.class));
+    }
+
+    public double evaluateDouble() {
+        return evaluateDouble(null);
+    }
+
+    public double evaluateDouble(Object root) {
+        if (accepts(root) && node.kind.isNumber()) {
+            return node.widenToDouble(root);
+        }
+        return notNull(expression.getValue(root, Double.class));
+    }
+
+    private boolean accepts(Object root) {
+        return node != null && (root == null || rootType == null || rootType.isInstance(root));
+    }
+
+    private <T> T notNull(T value) {
+        if (value == null) {
+            throw new EvaluationException(expression.getExpressionString(),
+                    "Expression evaluated to null, expected a primitive value");
+        }
+        return value;
+    }
+
+    // 지원하지 않는 노드가 하나라도 있으면 null
+    private static PrimitiveNode build(SpelNode ast, Class<?> rootType) {
+        return switch (ast) {
+            case IntLiteral literal -> PrimitiveNode.Constant.ofInt((Integer) literal.getLiteralValue().getValue());
+            case LongLiteral literal -> PrimitiveNode.Constant.ofLong((Long) literal.getLiteralValue().getValue());
+            case RealLiteral literal -> PrimitiveNode.Constant.ofDouble((Double) literal.getLiteralValue().getValue());
+            case BooleanLiteral literal -> PrimitiveNode.Constant.ofBoolean((Boolean) literal.getLiteralValue().getValue());
+            case OpPlus op when op.getChildCount() == 1 -> number(build(op.getChild(0), rootType));
+            case OpMinus op when op.getChildCount() == 1 -> negate(build(op.getChild(0), rootType));
+            case OpPlus op -> arithmetic(ArithmeticOperator.ADD, op, rootType);
+            case OpMinus op -> arithmetic(ArithmeticOperator.SUBTRACT, op, rootType);
+            case OpMultiply op -> arithmetic(ArithmeticOperator.MULTIPLY, op, rootType);
+            case OpDivide op -> arithmetic(ArithmeticOperator.DIVIDE, op, rootType);
+            case OpModulus op -> arithmetic(ArithmeticOperator.MODULUS, op, rootType);
+            case OpLT op -> comparison(ComparisonOperator.LT, op, rootType);
+            case OpGT op -> comparison(ComparisonOperator.GT, op, rootType);
+            case OpLE op -> comparison(ComparisonOperator.LE, op, rootType);
+            case OpGE op -> comparison(ComparisonOperator.GE, op, rootType);
+            case OpEQ op -> comparison(ComparisonOperator.EQ, op, rootType);
+            case OpNE op -> comparison(ComparisonOperator.NE, op, rootType);
+            case OpAnd op -> logical(op, rootType, true);
+            case OpOr op -> logical(op, rootType, false);
+            case OperatorNot op -> not(build(op.getChild(0), rootType));
+            case OperatorBetween op -> between(op, rootType);
+            case Ternary ternary -> ternary(ternary, rootType);
+            case PropertyOrFieldReference property -> path(new SpelNode[] { property }, rootType);
+            case CompoundExpression compound -> path(children(compound), rootType);
+            default -> null;
+        };
+    }
+
+    private static PrimitiveNode number(PrimitiveNode operand) {
+        return operand != null && operand.kind.isNumber() ? operand : null;
+    }
+
+    private static PrimitiveNode negate(PrimitiveNode operand) {
+        if (number(operand) == null) {
+            return null;
+        }
+        return PrimitiveNode.fold(new PrimitiveNode.Negate(operand), operand);
+    }
+
+    private static PrimitiveNode arithmetic(ArithmeticOperator operator, SpelNode op, Class<?> rootType) {
+        var left = number(build(op.getChild(0), rootType));
+        var right = number(build(op.getChild(1), rootType));
+        if (left == null || right == null) {
+            return null;
+        }
+        return PrimitiveNode.fold(new PrimitiveNode.Arithmetic(operator, left, right), left, right);
+    }
+
+    private static PrimitiveNode comparison(ComparisonOperator operator, SpelNode op, Class<?> rootType) {
+        var left = build(op.getChild(0), rootType);
+        var right = build(op.getChild(1), rootType);
+        if (left == null || right == null || left.kind.isNumber() != right.kind.isNumber()) {
+            return null;
+        }
+        // boolean은 ==, != 만 지원한다
+        if (left.kind == Kind.BOOLEAN && operator != ComparisonOperator.EQ && operator != ComparisonOperator.NE) {
+            return null;
+        }
+        return PrimitiveNode.fold(new PrimitiveNode.Comparison(operator, left, right), left, right);
+    }
+
+    private static PrimitiveNode logical(SpelNode op, Class<?> rootType, boolean and) {
+        var left = bool(build(op.getChild(0), rootType));
+        var right = bool(build(op.getChild(1), rootType));
+        if (left == null || right == null) {
+            return null;
+        }
+        var node = and ? new PrimitiveNode.And(left, right) : new PrimitiveNode.Or(left, right);
+        return PrimitiveNode.fold(node, left, right);
+    }
+
+    private static PrimitiveNode not(PrimitiveNode operand) {
+        if (bool(operand) == null) {
+            return null;
+        }
+        return PrimitiveNode.fold(new PrimitiveNode.Not(operand), operand);
+    }
+
+    private static PrimitiveNode bool(PrimitiveNode operand) {
+        return operand != null && operand.kind == Kind.BOOLEAN ? operand : null;
+    }
+
+    // 1 between {0, 2}
+    private static PrimitiveNode between(OperatorBetween op, Class<?> rootType) {
+        if (!(op.getChild(1) instanceof InlineList range) || range.getChildCount() != 2) {
+            return null;
+        }
+        var value = number(build(op.getChild(0), rootType));
+        var low = number(build(range.getChild(0), rootType));
+        var high = number(build(range.getChild(1), rootType));
+        if (value == null || low == null || high == null) {
+            return null;
+        }
+        return PrimitiveNode.fold(new PrimitiveNode.Between(value, low, high), value, low, high);
+    }
+
+    private static PrimitiveNode ternary(Ternary ternary, Class<?> rootType) {
+        var condition = bool(build(ternary.getChild(0), rootType));
+        var ifTrue = build(ternary.getChild(1), rootType);
+        var ifFalse = build(ternary.getChild(2), rootType);
+        // SpEL은 선택된 쪽의 타입을 그대로 돌려주므로 (true ? 1 : 0L 은 Integer) 두 쪽의 kind가 같을 때만 지원한다
+        if (condition == null || ifTrue == null || ifFalse == null || ifTrue.kind != ifFalse.kind) {
+            return null;
+        }
+        return PrimitiveNode.fold(new PrimitiveNode.Ternary(condition, ifTrue, ifFalse), condition, ifTrue, ifFalse);
+    }
+
+    private static SpelNode[] children(SpelNode node) {
+        var children = new SpelNode[node.getChildCount()];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = node.getChild(i);
+        }
+        return children;
+    }
+
+    // birthdate.year -> [getBirthdate: (Object)Object, getYear: (Object)int]
+    private static PrimitiveNode path(SpelNode[] chain, Class<?> rootType) {
+        if (rootType == null) {
+            return null;
+        }
+        var names = new String[chain.length];
+        var getters = new MethodHandle[chain.length];
+        var type = rootType;
+        Kind kind = null;
+        for (int i = 0; i < chain.length; i++) {
+            if (!(chain[i] instanceof PropertyOrFieldReference property) || property.isNullSafe()) {
+                return null;
+            }
+            names[i] = property.getName();
+            var getter = findGetter(type, names[i]);
+            if (getter == null) {
+                return null;
+            }
+            type = getter.getReturnType();
+            boolean leaf = i == chain.length - 1;
+            if (leaf) {
+                kind = kindOf(type);
+            }
+            if (leaf ? kind == null : type.isPrimitive()) {
+                return null;
+            }
+            var returnType = leaf ? primitiveType(kind) : Object.class;
+            try {
+                getters[i] = MethodHandles.lookup().unreflect(getter)
+                        .asType(MethodType.methodType(returnType, Object.class));
+            } catch (IllegalAccessException | RuntimeException ex) {
+                return null;
+            }
+        }
+        return new PrimitiveNode.PropertyPath(kind, names, getters);
+    }
+
+    // SpEL(ReflectivePropertyAccessor)과 같이 public 타입(또는 public 인터페이스/상위 클래스)의
+    // public accessor만 사용한다. 찾지 못하거나 실패하면 null -> SpEL로 평가
+    private static Method findGetter(Class<?> type, String name) {
+        try {
+            var descriptor = BeanUtils.getPropertyDescriptor(type, name);
+            var getter = descriptor != null ? descriptor.getReadMethod() : null;
+            if (getter == null) {
+                // record 스타일 accessor: name()
+                getter = type.getMethod(name);
+            }
+            if (Modifier.isStatic(getter.getModifiers()) || getter.getReturnType() == void.class) {
+                return null;
+            }
+            getter = ClassUtils.getPubliclyAccessibleMethodIfPossible(getter, type);
+            if (!Modifier.isPublic(getter.getModifiers())
+                    || !Modifier.isPublic(getter.getDeclaringClass().getModifiers())) {
+                return null;
+            }
+            return getter;
+        } catch (NoSuchMethodException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    // float은 SpEL이 float로 계산하므로 지원하지 않는다
+    private static Kind kindOf(Class<?> type) {
+        if (type == boolean.class) {
+            return Kind.BOOLEAN;
+        }
+        if (type == int.class || type == short.class || type == byte.class) {
+            return Kind.INT;
+        }
+        if (type == long.class) {
+            return Kind.LONG;
+        }
+        if (type == double.class) {
+            return Kind.DOUBLE;
+        }
+        return null;
+    }
+
+    private static Class<?> primitiveType(Kind kind) {
+        return switch (kind) {
+            case BOOLEAN -> boolean.class;
+            case INT -> int.class;
+            case LONG -> long.class;
+            case DOUBLE -> double.class;
+        };
+    }
+}
@@ -0,0 +1,471 @@
+package com.ohhoonim.demo_spel.evaluation;
+
+import java.lang.invoke.MethodHandle;
+
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+
+/*
+ * PrimitiveExpression이 평가하는 노드.
+ * SpEL AST와 달리 중간값을 TypedValue/Integer/Boolean으로 감싸지 않고 primitive로 주고 받는다.
+ *
+ * kind에 맞는 메소드만 구현하고, 숫자는 int -> long -> double 순서로 넓혀서(widen) 계산한다.
+ * SpEL과 같은 규칙: int 끼리는 int, long이 섞이면 long, double이 섞이면 double
+ */
+abstract class PrimitiveNode {
+
+    enum Kind {
+        BOOLEAN, INT, LONG, DOUBLE;
+
+        boolean isNumber() {
+            return this != BOOLEAN;
+        }
+
+        static Kind widest(Kind left, Kind right) {
+            return left.ordinal() > right.ordinal() ? left : right;
+        }
+    }
+
+    final Kind kind;
+
+    PrimitiveNode(Kind kind) {
+        this.kind = kind;
+    }
+
+    boolean booleanValue(Object root) {
+        throw new IllegalStateException("Not a boolean node: " + kind);
+    }
+
+    int intValue(Object root) {
+        throw new IllegalStateException("Not an int node: " + kind);
+    }
+
+    long longValue(Object root) {
+        throw new IllegalStateException("Not a long node: " + kind);
+    }
+
+    double doubleValue(Object root) {
+        throw new IllegalStateException("Not a double node: " + kind);
+    }
+
+    final long widenToLong(Object root) {
+        return kind == Kind.INT ? intValue(root) : longValue(root);
+    }
+
+    final double widenToDouble(Object root) {
+        return switch (kind) {
+            case INT -> intValue(root);
+            case LONG -> longValue(root);
+            default -> doubleValue(root);
+        };
+    }
+
+    boolean isConstant() {
+        return false;
+    }
+
+    // 자식이 모두 상수이면 한 번만 계산해서 상수 노드로 바꾼다
+    static PrimitiveNode fold(PrimitiveNode node, PrimitiveNode... children) {
+        for (var child : children) {
+            if (!child.isConstant()) {
+                return node;
+            }
+        }
+        try {
+            return switch (node.kind) {
+                case BOOLEAN -> Constant.ofBoolean(node.booleanValue(null));
+                case INT -> Constant.ofInt(node.intValue(null));
+                case LONG -> Constant.ofLong(node.longValue(null));
+                case DOUBLE -> Constant.ofDouble(node.doubleValue(null));
+            };
+        } catch (ArithmeticException ex) {
+            // 1 / 0 같은 오류는 SpEL과 같이 평가 시점에 발생시킨다
+            return node;
+        }
+    }
+
+    static final class Constant extends PrimitiveNode {
+        private final boolean booleanValue;
+        private final long longValue;
+        private final double doubleValue;
+
+        private Constant(Kind kind, boolean booleanValue, long longValue, double doubleValue) {
+            super(kind);
+            this.booleanValue = booleanValue;
+            this.longValue = longValue;
+            this.doubleValue = doubleValue;
+        }
+
+        static Constant ofBoolean(boolean value) {
+            return new Constant(Kind.BOOLEAN, value, 0, 0);
+        }
+
+        static Constant ofInt(int value) {
+            return new Constant(Kind.INT, false, value, 0);
+        }
+
+        static Constant ofLong(long value) {
+            return new Constant(Kind.LONG, false, value, 0);
+        }
+
+        static Constant ofDouble(double value) {
+            return new Constant(Kind.DOUBLE, false, 0, value);
+        }
+
+        @Override
+        boolean booleanValue(Object root) {
+            return booleanValue;
+        }
+
+        @Override
+        int intValue(Object root) {
+            return (int) longValue;
+        }
+
+        @Override
+        long longValue(Object root) {
+            return longValue;
+        }
+
+        @Override
+        double doubleValue(Object root) {
+            return doubleValue;
+        }
+
+        @Override
+        boolean isConstant() {
+            return true;
+        }
+    }
+
+    enum ArithmeticOperator {
+        ADD, SUBTRACT, MULTIPLY, DIVIDE, MODULUS
+    }
+
+    static final class Arithmetic extends PrimitiveNode {
+        private final ArithmeticOperator operator;
+        private final PrimitiveNode left;
+        private final PrimitiveNode right;
+
+        Arithmetic(ArithmeticOperator operator, PrimitiveNode left, PrimitiveNode right) {
+            super(Kind.widest(left.kind, right.kind));
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int intValue(Object root) {
+            int l = left.intValue(root);
+            int r = right.intValue(root);
+            return switch (operator) {
+                case ADD -> l + r;
+                case SUBTRACT -> l - r;
+                case MULTIPLY -> l * r;
+                case DIVIDE -> l / r;
+                case MODULUS -> l % r;
+            };
+        }
+
+        @Override
+        long longValue(Object root) {
+            long l = left.widenToLong(root);
+            long r = right.widenToLong(root);
+            return switch (operator) {
+                case ADD -> l + r;
+                case SUBTRACT -> l - r;
+                case MULTIPLY -> l * r;
+                case DIVIDE -> l / r;
+                case MODULUS -> l % r;
+            };
+        }
+
+        @Override
+        double doubleValue(Object root) {
+            double l = left.widenToDouble(root);
+            double r = right.widenToDouble(root);
+            return switch (operator) {
+                case ADD -> l + r;
+                case SUBTRACT -> l - r;
+                case MULTIPLY -> l * r;
+                case DIVIDE -> l / r;
+                case MODULUS -> l % r;
+            };
+        }
+    }
+
+    static final class Negate extends PrimitiveNode {
+        private final PrimitiveNode operand;
+
+        Negate(PrimitiveNode operand) {
+            super(operand.kind);
+            this.operand = operand;
+        }
+
+        @Override
+        int intValue(Object root) {
+            return -operand.intValue(root);
+        }
+
+        @Override
+        long longValue(Object root) {
+            return -operand.longValue(root);
+        }
+
+        @Override
+        double doubleValue(Object root) {
+            return -operand.doubleValue(root);
+        }
+    }
+
+    enum ComparisonOperator {
+        LT, GT, LE, GE, EQ, NE
+    }
+
+    static final class Comparison extends PrimitiveNode {
+        private final ComparisonOperator operator;
+        private final Kind operandKind;
+        private final PrimitiveNode left;
+        private final PrimitiveNode right;
+
+        Comparison(ComparisonOperator operator, PrimitiveNode left, PrimitiveNode right) {
+            super(Kind.BOOLEAN);
+            this.operator = operator;
+            this.operandKind = Kind.widest(left.kind, right.kind);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean booleanValue(Object root) {
+            // double은 SpEL과 같이 ==, < 로 비교한다 (Double.compare와 0.0/-0.0, NaN 처리가 다르다)
+            if (operandKind == Kind.DOUBLE) {
+                double l = left.widenToDouble(root);
+                double r = right.widenToDouble(root);
+                return switch (operator) {
+                    case LT -> l < r;
+                    case GT -> l > r;
+                    case LE -> l <= r;
+                    case GE -> l >= r;
+                    case EQ -> l == r;
+                    case NE -> l != r;
+                };
+            }
+            int result = switch (operandKind) {
+                case BOOLEAN -> Boolean.compare(left.booleanValue(root), right.booleanValue(root));
+                case INT -> Integer.compare(left.intValue(root), right.intValue(root));
+                default -> Long.compare(left.widenToLong(root), right.widenToLong(root));
+            };
+            return switch (operator) {
+                case LT -> result < 0;
+                case GT -> result > 0;
+                case LE -> result <= 0;
+                case GE -> result >= 0;
+                case EQ -> result == 0;
+                case NE -> result != 0;
+            };
+        }
+    }
+
+    static final class Between extends PrimitiveNode {
+        private final Kind operandKind;
+        private final PrimitiveNode value;
+        private final PrimitiveNode low;
+        private final PrimitiveNode high;
+
+        Between(PrimitiveNode value, PrimitiveNode low, PrimitiveNode high) {
+            super(Kind.BOOLEAN);
+            this.operandKind = Kind.widest(value.kind, Kind.widest(low.kind, high.kind));
+            this.value = value;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        boolean booleanValue(Object root) {
+            return switch (operandKind) {
+                case INT -> {
+                    int v = value.intValue(root);
+                    yield v >= low.intValue(root) && v <= high.intValue(root);
+                }
+                case LONG -> {
+                    long v = value.widenToLong(root);
+                    yield v >= low.widenToLong(root) && v <= high.widenToLong(root);
+                }
+                default -> {
+                    double v = value.widenToDouble(root);
+                    yield Double.compare(v, low.widenToDouble(root)) >= 0
+                            && Double.compare(v, high.widenToDouble(root)) <= 0;
+                }
+            };
+        }
+    }
+
+    static final class And extends PrimitiveNode {
+        private final PrimitiveNode left;
+        private final PrimitiveNode right;
+
+        And(PrimitiveNode left, PrimitiveNode right) {
+            super(Kind.BOOLEAN);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean booleanValue(Object root) {
+            return left.booleanValue(root) && right.booleanValue(root);
+        }
+    }
+
+    static final class Or extends PrimitiveNode {
+        private final PrimitiveNode left;
+        private final PrimitiveNode right;
+
+        Or(PrimitiveNode left, PrimitiveNode right) {
+            super(Kind.BOOLEAN);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean booleanValue(Object root) {
+            return left.booleanValue(root) || right.booleanValue(root);
+        }
+    }
+
+    static final class Not extends PrimitiveNode {
+        private final PrimitiveNode operand;
+
+        Not(PrimitiveNode operand) {
+            super(Kind.BOOLEAN);
+            this.operand = operand;
+        }
+
+        @Override
+        boolean booleanValue(Object root) {
+            return !operand.booleanValue(root);
+        }
+    }
+
+    static final class Ternary extends PrimitiveNode {
+        private final PrimitiveNode condition;
+        private final PrimitiveNode ifTrue;
+        private final PrimitiveNode ifFalse;
+
+        Ternary(PrimitiveNode condition, PrimitiveNode ifTrue, PrimitiveNode ifFalse) {
+            super(ifTrue.kind);
+            this.condition = condition;
+            this.ifTrue = ifTrue;
+            this.ifFalse = ifFalse;
+        }
+
+        private PrimitiveNode branch(Object root) {
+            return condition.booleanValue(root) ? ifTrue : ifFalse;
+        }
+
+        @Override
+        boolean booleanValue(Object root) {
+            return branch(root).booleanValue(root);
+        }
+
+        @Override
+        int intValue(Object root) {
+            return branch(root).intValue(root);
+        }
+
+        @Override
+        long longValue(Object root) {
+            return branch(root).longValue(root);
+        }
+
+        @Override
+        double doubleValue(Object root) {
+            return branch(root).doubleValue(root);
+        }
+    }
+
+    /*
+     * root에서 시작하는 getter 체인 (birthdate.year)
+     * 중간 getter는 (Object)Object, 마지막 getter는 (Object)int 처럼 primitive를 돌려주는 MethodHandle
+     */
+    static final class PropertyPath extends PrimitiveNode {
+        private final String[] names;
+        private final MethodHandle[] getters;
+
+        PropertyPath(Kind kind, String[] names, MethodHandle[] getters) {
+            super(kind);
+            this.names = names;
+            this.getters = getters;
+        }
+
+        private Object target(Object root) {
+            var target = root;
+            int last = getters.length - 1;
+            for (int i = 0; i < last; i++) {
+                checkNotNull(target, i);
+                try {
+                    target = (Object) getters[i].invokeExact(target);
+                } catch (Throwable ex) {
+                    throw failure(ex, i);
+                }
+            }
+            checkNotNull(target, last);
+            return target;
+        }
+
+        private void checkNotNull(Object target, int index) {
+            if (target == null) {
+                throw new SpelEvaluationException(SpelMessage.PROPERTY_OR_FIELD_NOT_READABLE_ON_NULL, names[index]);
+            }
+        }
+
+        @Override
+        boolean booleanValue(Object root) {
+            var target = target(root);
+            try {
+                return (boolean) getters[getters.length - 1].invokeExact(target);
+            } catch (Throwable ex) {
+                throw failure(ex, getters.length - 1);
+            }
+        }
+
+        @Override
+        int intValue(Object root) {
+            var target = target(root);
+            try {
+                return (int) getters[getters.length - 1].invokeExact(target);
+            } catch (Throwable ex) {
+                throw failure(ex, getters.length - 1);
+            }
+        }
+
+        @Override
+        long longValue(Object root) {
+            var target = target(root);
+            try {
+                return (long) getters[getters.length - 1].invokeExact(target);
+            } catch (Throwable ex) {
+                throw failure(ex, getters.length - 1);
+            }
+        }
+
+        @Override
+        double doubleValue(Object root) {
+            var target = target(root);
+            try {
+                return (double) getters[getters.length - 1].invokeExact(target);
+            } catch (Throwable ex) {
+                throw failure(ex, getters.length - 1);
+            }
+        }
+
+        // SpEL과 같이 getter에서 발생한 예외는 EXCEPTION_DURING_PROPERTY_READ로 감싼다
+        private SpelEvaluationException failure(Throwable ex, int index) {
+            if (ex instanceof Error error) {
+                throw error;
+            }
+            return new SpelEvaluationException(ex, SpelMessage.EXCEPTION_DURING_PROPERTY_READ,
+                    names[index], ex.getMessage());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.ohhoonim.demo_spel.inventor;
 
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
 import java.time.LocalDate;
 import java.util.Objects;
 
@@ -10,6 +12,8 @@ public class Inventor {
     private LocalDate birthdate;
     private PlaceOfBirth placeOfBirth;
 
+    private final PropertyChangeSupport changes = new PropertyChangeSupport(this);
+
     public Inventor(String name, String nationality) {
         this.name = name;
         this.nationality = nationality;
@@ -30,7 +34,9 @@ public class Inventor {
     }
 
     public void setName(String name) {
+        var oldName = this.name;
         this.name = Objects.requireNonNull(name, "Name cannot be null");
+        changes.firePropertyChange("name", oldName, name);
     }
 
     public String getNationality() {
@@ -38,7 +44,9 @@ public class Inventor {
     }
 
     public void setNationality(String nationality) {
+        var oldNationality = this.nationality;
         this.nationality = nationality;
+        changes.firePropertyChange("nationality", oldNationality, nationality);
     }
 
     public LocalDate getBirthdate() {
@@ -46,7 +54,9 @@ public class Inventor {
     }
 
     public void setBirthdate(LocalDate birthdate) {
+        var oldBirthdate = this.birthdate;
         this.birthdate = birthdate;
+        changes.firePropertyChange("birthdate", oldBirthdate, birthdate);
     }
 
     public PlaceOfBirth getPlaceOfBirth() {
@@ -54,17 +64,29 @@ public class Inventor {
     }
 
     public void setPlaceOfBirth(PlaceOfBirth placeOfBirth) {
+        var oldPlaceOfBirth = this.placeOfBirth;
         this.placeOfBirth = placeOfBirth;
+        changes.firePropertyChange("placeOfBirth", oldPlaceOfBirth, placeOfBirth);
     }
 
     public void setInventions(String[] inventions) {
+        var oldInventions = this.inventions;
         this.inventions = inventions;
+        changes.firePropertyChange("inventions", oldInventions, inventions);
     }
 
     public String[] getInventions() {
         return inventions;
     }
 
+    public void addPropertyChangeListener(PropertyChangeListener listener) {
+        changes.addPropertyChangeListener(listener);
+    }
+
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+        changes.removePropertyChangeListener(listener);
+    }
+
     @Override
     public String toString() {
         return "Inventor{name='" + name + "', nationality='" + nationality + "', birthdate=" + birthdate + "}";
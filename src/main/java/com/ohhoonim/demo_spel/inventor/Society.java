@@ -1,9 +1,12 @@
 package com.ohhoonim.demo_spel.inventor;
 
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public class Society {
     private String name;
@@ -14,6 +17,11 @@ public class Society {
     private List<Inventor> members = new ArrayList<>();
     private Map<String, Inventor> officers = new HashMap<>();
 
+    private final PropertyChangeSupport changes = new PropertyChangeSupport(this);
+    // 멤버/임원의 필드가 바뀌면 society의 members, officers['key'] 변경으로 전달한다
+    private final PropertyChangeListener memberListener = event -> fireMembersChanged();
+    private final Map<String, PropertyChangeListener> officerListeners = new HashMap<>();
+
     public List<Inventor> getMembers() {
         return members;
     }
@@ -27,7 +35,45 @@ public class Society {
     }
 
     public void setName(String name) {
+        var oldName = this.name;
         this.name = name;
+        changes.firePropertyChange("name", oldName, name);
+    }
+
+    // getMembers()/getOfficers()를 직접 수정하면 변경 통지가 발생하지 않는다
+    public void addMember(Inventor member) {
+        Objects.requireNonNull(member, "Member cannot be null");
+        members.add(member);
+        member.addPropertyChangeListener(memberListener);
+        fireMembersChanged();
+    }
+
+    public boolean removeMember(Inventor member) {
+        if (!members.remove(member)) {
+            return false;
+        }
+        member.removePropertyChangeListener(memberListener);
+        fireMembersChanged();
+        return true;
+    }
+
+    public void putOfficer(String key, Inventor officer) {
+        Objects.requireNonNull(key, "Officer key cannot be null");
+        Objects.requireNonNull(officer, "Officer cannot be null");
+        detachOfficer(key, officers.put(key, officer));
+        PropertyChangeListener listener = event -> fireOfficerChanged(key);
+        officer.addPropertyChangeListener(listener);
+        officerListeners.put(key, listener);
+        fireOfficerChanged(key);
+    }
+
+    public Inventor removeOfficer(String key) {
+        var officer = officers.remove(key);
+        if (officer != null) {
+            detachOfficer(key, officer);
+            fireOfficerChanged(key);
+        }
+        return officer;
     }
 
     public boolean isMember(String name) {
@@ -35,4 +81,27 @@ public class Society {
                 .filter(m -> m.getName().equals(name)).findFirst()
                 .isPresent();
     }
+
+    public void addPropertyChangeListener(PropertyChangeListener listener) {
+        changes.addPropertyChangeListener(listener);
+    }
+
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+        changes.removePropertyChangeListener(listener);
+    }
+
+    private void detachOfficer(String key, Inventor officer) {
+        var listener = officerListeners.remove(key);
+        if (officer != null && listener != null) {
+            officer.removePropertyChangeListener(listener);
+        }
+    }
+
+    private void fireMembersChanged() {
+        changes.firePropertyChange("members", null, members);
+    }
+
+    private void fireOfficerChanged(String key) {
+        changes.firePropertyChange("officers['" + key + "']", null, officers.get(key));
+    }
 }
@@ -0,0 +1,192 @@
+package com.ohhoonim.demo_spel.rule;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.common.CompositeStringExpression;
+import org.springframework.expression.common.LiteralExpression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.FunctionReference;
+import org.springframework.expression.spel.ast.Indexer;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.Projection;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.Selection;
+import org.springframework.expression.spel.ast.StringLiteral;
+import org.springframework.expression.spel.ast.VariableReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+
+/*
+ * 파싱된 표현식의 AST를 따라가며 root 객체에서 읽는 property 경로를 수집한다.
+ * 예) "placeOfBirth.city == 'Ulm'" -> [placeOfBirth.city]
+ *     "officers['president'].name" -> [officers['president'].name]
+ *
+ * root에 대한 메소드 호출(isMember(..))이나 #root 자체를 사용하는 경우처럼
+ * 무엇을 읽는지 알 수 없으면 ANY 를 돌려준다.
+ */
+public final class ExpressionDependencies {
+
+    public static final String ANY = "*";
+
+    private ExpressionDependencies() {
+    }
+
+    public static Set<String> of(Expression expression) {
+        var paths = new TreeSet<String>();
+        collect(expression, paths);
+        return Collections.unmodifiableSet(paths);
+    }
+
+    // 변경된 경로가 의존 경로와 겹치는지 (한쪽이 다른 쪽의 상위 경로인지) 확인
+    public static boolean affects(String changedPath, String dependency) {
+        return ANY.equals(dependency)
+                || isParentOrSelf(changedPath, dependency)
+                || isParentOrSelf(dependency, changedPath);
+    }
+
+    // "officers['president'].name" -> "officers"
+    public static String head(String path) {
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '.' || c == '[') {
+                return path.substring(0, i);
+            }
+        }
+        return path;
+    }
+
+    private static boolean isParentOrSelf(String parent, String path) {
+        if (!path.startsWith(parent)) {
+            return false;
+        }
+        if (path.length() == parent.length()) {
+            return true;
+        }
+        char next = path.charAt(parent.length());
+        return next == '.' || next == '[';
+    }
+
+    private static void collect(Expression expression, Set<String> paths) {
+        switch (expression) {
+            case SpelExpression spel -> visit(spel.getAST(), false, paths);
+            case CompositeStringExpression composite -> {
+                for (var part : composite.getExpressions()) {
+                    collect(part, paths);
+                }
+            }
+            case LiteralExpression literal -> {
+            }
+            default -> paths.add(ANY);
+        }
+    }
+
+    private static void visit(SpelNode node, boolean elementScope, Set<String> paths) {
+        if (node instanceof CompoundExpression) {
+            var chain = new SpelNode[node.getChildCount()];
+            for (int i = 0; i < chain.length; i++) {
+                chain[i] = node.getChild(i);
+            }
+            visitChain(chain, elementScope, paths);
+        } else if (isReference(node)) {
+            visitChain(new SpelNode[] { node }, elementScope, paths);
+        } else {
+            visitChildren(node, elementScope, paths);
+        }
+    }
+
+    private static boolean isReference(SpelNode node) {
+        return node instanceof PropertyOrFieldReference
+                || node instanceof MethodReference
+                || node instanceof VariableReference
+                || node instanceof FunctionReference
+                || node instanceof Indexer
+                || node instanceof Selection
+                || node instanceof Projection;
+    }
+
+    // a.b['key'].c 처럼 이어지는 참조를 하나의 경로로 만든다
+    // selection/projection 안쪽은 root가 아니라 각 요소를 기준으로 평가되므로 경로로 잡지 않는다
+    private static void visitChain(SpelNode[] chain, boolean elementScope, Set<String> paths) {
+        boolean tracking = !elementScope;
+        int start = 0;
+        if (chain[0] instanceof VariableReference variable) {
+            var name = variable.toStringAST();
+            if ("#root".equals(name)) {
+                tracking = true;
+            } else if (!"#this".equals(name)) {
+                tracking = false;
+            }
+            start = 1;
+        } else if (chain[0] instanceof FunctionReference) {
+            tracking = false;
+        }
+        if (tracking && (start == chain.length || chain[start] instanceof MethodReference)) {
+            paths.add(ANY);
+            tracking = false;
+        }
+
+        var path = new StringBuilder();
+        for (int i = start; i < chain.length; i++) {
+            var step = chain[i];
+            if (tracking && step instanceof PropertyOrFieldReference property) {
+                if (!path.isEmpty()) {
+                    path.append('.');
+                }
+                path.append(property.getName());
+                continue;
+            }
+            if (tracking && step instanceof Indexer && step.getChild(0) instanceof Literal key
+                    && (key instanceof StringLiteral || !path.isEmpty())) {
+                path.append(indexKey(key, path.isEmpty()));
+                continue;
+            }
+            if (tracking && unquotedKey(step) instanceof PropertyOrFieldReference key) {
+                path.append(path.isEmpty() ? key.getName() : "['" + key.getName() + "']");
+                continue;
+            }
+            if (tracking) {
+                addPath(path, paths);
+                tracking = false;
+            }
+            if (unquotedKey(step) != null) {
+                continue;
+            }
+            boolean perElement = elementScope || step instanceof Selection || step instanceof Projection;
+            visitChildren(step, perElement, paths);
+        }
+        if (tracking) {
+            addPath(path, paths);
+        }
+    }
+
+    private static void visitChildren(SpelNode node, boolean elementScope, Set<String> paths) {
+        for (int i = 0; i < node.getChildCount(); i++) {
+            visit(node.getChild(i), elementScope, paths);
+        }
+    }
+
+    // officers[president] 처럼 따옴표 없는 인덱스는 SpEL이 map key 문자열로 사용하므로 root 읽기가 아니다
+    private static PropertyOrFieldReference unquotedKey(SpelNode step) {
+        if (step instanceof Indexer && step.getChild(0) instanceof PropertyOrFieldReference key) {
+            return key;
+        }
+        return null;
+    }
+
+    // root에 바로 붙은 문자열 인덱스(#root['name'])는 property 이름으로 본다
+    private static String indexKey(Literal key, boolean onRoot) {
+        var value = key.getLiteralValue().getValue();
+        if (key instanceof StringLiteral) {
+            return onRoot ? String.valueOf(value) : "['" + value + "']";
+        }
+        return "[" + value + "]";
+    }
+
+    private static void addPath(StringBuilder path, Set<String> paths) {
+        paths.add(path.isEmpty() ? ANY : path.toString());
+    }
+}
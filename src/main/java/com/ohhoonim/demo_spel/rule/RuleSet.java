@@ -0,0 +1,175 @@
+package com.ohhoonim.demo_spel.rule;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+
+/*
+ * 하나의 root 객체(Inventor, Society ...)에 대한 rule 결과를 캐시한다.
+ * root의 변경 통지(PropertyChangeEvent)를 받으면 바뀐 property를 읽는 rule만 무효화하고,
+ * 무효화된 rule은 다음 조회 시점에 다시 평가한다.
+ *
+ * var rules = new RuleSet<>(inventor);
+ * inventor.addPropertyChangeListener(rules);
+ */
+public class RuleSet<T> implements PropertyChangeListener {
+
+    private final T root;
+    private final EvaluationContext context;
+
+    private final Map<String, Rule> rules = new LinkedHashMap<>();
+    // 최상위 property 이름 -> 그 property를 읽는 rule
+    private final Map<String, Set<Rule>> rulesByProperty = new HashMap<>();
+    private final Set<Rule> rulesReadingAnything = new LinkedHashSet<>();
+
+    public RuleSet(T root) {
+        this(root, null);
+    }
+
+    public RuleSet(T root, EvaluationContext context) {
+        this.root = root;
+        this.context = context;
+    }
+
+    public T getRoot() {
+        return root;
+    }
+
+    public synchronized void add(String name, Expression expression) {
+        remove(name);
+        var rule = new Rule(name, expression, ExpressionDependencies.of(expression));
+        rules.put(name, rule);
+        for (var dependency : rule.dependencies) {
+            if (ExpressionDependencies.ANY.equals(dependency)) {
+                rulesReadingAnything.add(rule);
+            } else {
+                rulesByProperty
+                        .computeIfAbsent(ExpressionDependencies.head(dependency), key -> new LinkedHashSet<>())
+                        .add(rule);
+            }
+        }
+    }
+
+    public synchronized boolean remove(String name) {
+        var rule = rules.remove(name);
+        if (rule == null) {
+            return false;
+        }
+        rulesReadingAnything.remove(rule);
+        for (var dependency : rule.dependencies) {
+            var property = ExpressionDependencies.head(dependency);
+            var dependents = rulesByProperty.get(property);
+            if (dependents != null) {
+                dependents.remove(rule);
+                if (dependents.isEmpty()) {
+                    rulesByProperty.remove(property);
+                }
+            }
+        }
+        return true;
+    }
+
+    public synchronized Object getResult(String name) {
+        var rule = rules.get(name);
+        if (rule == null) {
+            throw new NoSuchElementException("Unknown rule: " + name);
+        }
+        if (!rule.cached) {
+            rule.value = context == null
+                    ? rule.expression.getValue(root)
+                    : rule.expression.getValue(context, root);
+            rule.cached = true;
+        }
+        return rule.value;
+    }
+
+    public <R> R getResult(String name, Class<R> type) {
+        return type.cast(getResult(name));
+    }
+
+    public synchronized Map<String, Object> getResults() {
+        var results = new LinkedHashMap<String, Object>();
+        for (var name : rules.keySet()) {
+            results.put(name, getResult(name));
+        }
+        return results;
+    }
+
+    public synchronized Set<String> getDependencies(String name) {
+        var rule = rules.get(name);
+        return rule == null ? Set.of() : rule.dependencies;
+    }
+
+    public synchronized boolean isCached(String name) {
+        var rule = rules.get(name);
+        return rule != null && rule.cached;
+    }
+
+    // 바뀐 경로와 겹치는 rule만 찾아 무효화한다: 비용은 전체 rule 수가 아니라 영향받는 rule 수에 비례
+    public synchronized void invalidate(String changedPath) {
+        var dependents = rulesByProperty.get(ExpressionDependencies.head(changedPath));
+        if (dependents != null) {
+            for (var rule : dependents) {
+                if (rule.cached && rule.dependsOn(changedPath)) {
+                    rule.invalidate();
+                }
+            }
+        }
+        rulesReadingAnything.forEach(Rule::invalidate);
+    }
+
+    public synchronized void invalidateAll() {
+        rules.values().forEach(Rule::invalidate);
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent event) {
+        // property 이름이 null이면 전체가 바뀌었다는 의미
+        if (event.getPropertyName() == null) {
+            invalidateAll();
+        } else {
+            invalidate(event.getPropertyName());
+        }
+    }
+
+    private static final class Rule {
+        private final String name;
+        private final Expression expression;
+        private final Set<String> dependencies;
+        private Object value;
+        private boolean cached;
+
+        private Rule(String name, Expression expression, Set<String> dependencies) {
+            this.name = name;
+            this.expression = expression;
+            this.dependencies = dependencies;
+        }
+
+        private boolean dependsOn(String changedPath) {
+            for (var dependency : dependencies) {
+                if (ExpressionDependencies.affects(changedPath, dependency)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void invalidate() {
+            value = null;
+            cached = false;
+        }
+
+        @Override
+        public String toString() {
+            return "Rule{name='" + name + "', dependencies=" + dependencies + "}";
+        }
+    }
+}
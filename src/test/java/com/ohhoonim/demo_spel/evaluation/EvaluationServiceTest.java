@@ -0,0 +1,155 @@
+package com.ohhoonim.demo_spel.evaluation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.ParseException;
+
+import com.ohhoonim.demo_spel.inventor.Inventor;
+import com.ohhoonim.demo_spel.inventor.Society;
+
+public class EvaluationServiceTest {
+
+    // 읽을 때마다 시간이 걸리는 property
+    public static class Slow {
+        public int getValue() {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        }
+    }
+
+    // interrupt를 무시하고 끝까지 실행되는 property
+    public static class Stubborn {
+        public int getValue() {
+            var end = System.nanoTime() + Duration.ofMillis(300).toNanos();
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+            return 1;
+        }
+    }
+
+    @Test
+    @DisplayName("전용 executor에서 selection 평가")
+    public void selectionTest() {
+        try (var service = EvaluationService.ofVirtualThreads(EvaluationLimits.defaults())) {
+            List<Integer> primes = List.of(2, 3, 5, 7, 11, 13, 17);
+
+            var result = service.evaluate("#primes.?[#this > 10]", null, Map.of("primes", primes), List.class);
+
+            assertThat(result).containsExactly(11, 13, 17);
+            assertThat(service.metrics().completed()).isEqualTo(1);
+            assertThat(service.metrics().pending()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("deadline을 넘기면 평가를 취소")
+    public void timeoutTest() {
+        var limits = new EvaluationLimits(Duration.ofMillis(100), 1_000, 1_000, 10);
+        try (var service = EvaluationService.ofForkJoin(2, limits)) {
+            var slows = IntStream.range(0, 100).mapToObj(i -> new Slow()).toList();
+
+            assertThatThrownBy(() -> service.evaluate("#root.![value]", slows, List.class))
+                    .isInstanceOf(EvaluationTimeoutException.class)
+                    .hasMessageContaining("timed out");
+            assertThat(service.metrics().timedOut()).isEqualTo(1);
+            assertThat(service.metrics().failed()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("timeout 후에도 실행중인 작업은 pending에 남는다")
+    public void pendingAfterTimeoutTest() {
+        var limits = new EvaluationLimits(Duration.ofMillis(50), 1_000, 1_000, 10);
+        try (var service = EvaluationService.ofVirtualThreads(limits)) {
+            assertThatThrownBy(() -> service.evaluate("value", new Stubborn(), Integer.class))
+                    .isInstanceOf(EvaluationTimeoutException.class);
+            assertThat(service.metrics().pending()).isEqualTo(1);
+
+            while (service.metrics().pending() != 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("메소드 호출, 인덱스 조회 결과도 제한하고 결과에는 guard가 남지 않는다")
+    public void methodAndIndexTest() throws Exception {
+        var limits = new EvaluationLimits(Duration.ofMillis(200), 2, 1_000, 10);
+        try (var service = EvaluationService.ofVirtualThreads(limits)) {
+            var society = new Society();
+            society.addMember(new Inventor("Albert Einstein", "Germany"));
+            society.addMember(new Inventor("Marie Curie", "Poland"));
+            society.addMember(new Inventor("Nikola Tesla", "Serbian"));
+
+            assertThatThrownBy(() -> service.evaluate("getMembers().?[nationality == 'Poland']", society, List.class))
+                    .hasMessageContaining("exceeds limit");
+            assertThatThrownBy(() -> service.evaluate("#lists[0].?[#this > 0]", null,
+                    Map.of("lists", List.of(List.of(1, 2, 3))), List.class))
+                    .hasMessageContaining("exceeds limit");
+
+            var nested = service.evaluate("#lists.![#this.subList(0, 1)]", null,
+                    Map.of("lists", List.of(List.of(1, 2), List.of(3, 4))), List.class);
+            // deadline이 지난 뒤 다른 스레드에서 순회해도 문제 없다
+            Thread.sleep(300);
+            assertThat(nested).containsExactly(List.of(1), List.of(3));
+        }
+    }
+
+    @Test
+    @DisplayName("collection 크기, 표현식 길이 제한")
+    public void limitsTest() {
+        var limits = new EvaluationLimits(Duration.ofSeconds(1), 2, 20, 10);
+        try (var service = EvaluationService.ofVirtualThreads(limits)) {
+            var society = new Society();
+            society.addMember(new Inventor("Albert Einstein", "Germany"));
+            society.addMember(new Inventor("Marie Curie", "Poland"));
+            society.addMember(new Inventor("Nikola Tesla", "Serbian"));
+
+            assertThatThrownBy(() -> service.evaluate("members.size()", society, Integer.class))
+                    .isInstanceOf(EvaluationException.class)
+                    .hasMessageContaining("exceeds limit");
+            assertThat(service.metrics().failed()).isEqualTo(1);
+
+            assertThatThrownBy(() -> service.evaluate("'x' + 'x' + 'x' + 'x' + 'x' + 'x'", null, String.class))
+                    .isInstanceOf(ParseException.class);
+            // 너무 큰 배열 생성은 SpEL 자체 제한에 걸린다
+            assertThatThrownBy(() -> service.evaluate("new int[100000000]", null, int[].class))
+                    .isInstanceOf(EvaluationException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("대기중인 평가가 많으면 거절")
+    public void rejectionTest() throws Exception {
+        var limits = new EvaluationLimits(Duration.ofSeconds(2), 1_000, 1_000, 1);
+        try (var service = EvaluationService.ofVirtualThreads(limits)) {
+            var slows = IntStream.range(0, 20).mapToObj(i -> new Slow()).toList();
+            var running = CompletableFuture.runAsync(() -> service.evaluate("#root.![value]", slows, List.class));
+            while (service.metrics().pending() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThatThrownBy(() -> service.evaluate("1 + 1", null, Integer.class))
+                    .isInstanceOf(RejectedExecutionException.class);
+            assertThat(service.metrics().rejected()).isEqualTo(1);
+
+            running.get();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.ohhoonim.demo_spel.evaluation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import com.ohhoonim.demo_spel.inventor.Inventor;
+
+public class PrimitiveExpressionTest {
+
+    public static class Vault {
+        @SuppressWarnings("unused")
+        private int secret() {
+            return 42;
+        }
+
+        public int getBroken() {
+            throw new IllegalStateException("broken");
+        }
+    }
+
+    @Test
+    @DisplayName("산술, 관계, 논리, between 연산자를 primitive로 평가")
+    public void operatorTest() {
+        var parser = new SpelExpressionParser();
+
+        var multiply = new PrimitiveExpression(parser.parseExpression("5 * 2"));
+        assertThat(multiply.isPrimitive()).isTrue();
+        assertThat(multiply.evaluateInt()).isEqualTo(10);
+
+        assertThat(new PrimitiveExpression(parser.parseExpression("1 < 2")).evaluateBoolean()).isTrue();
+        assertThat(new PrimitiveExpression(parser.parseExpression("1 between { 0, 2 }")).evaluateBoolean()).isTrue();
+        assertThat(new PrimitiveExpression(parser.parseExpression("true and false")).evaluateBoolean()).isFalse();
+        // int 끼리의 나눗셈은 int
+        assertThat(new PrimitiveExpression(parser.parseExpression("7 / 2")).evaluateDouble()).isEqualTo(3.0);
+        // long, double이 섞이면 넓은 타입으로 계산
+        assertThat(new PrimitiveExpression(parser.parseExpression("10L * 2")).evaluateLong()).isEqualTo(20L);
+        assertThat(new PrimitiveExpression(parser.parseExpression("10L * 2 + 0.5")).evaluateDouble()).isEqualTo(20.5);
+        // 삼항 연산자는 선택된 쪽의 타입을 따른다: int overflow
+        var ternary = new PrimitiveExpression(parser.parseExpression("(true ? 2147483647 : 0L) + 1"));
+        assertThat(ternary.isPrimitive()).isFalse();
+        assertThat(ternary.evaluateLong()).isEqualTo(-2147483648L);
+        assertThat(new PrimitiveExpression(parser.parseExpression("1 < 2 ? 3 : 4")).evaluateInt()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("root 객체의 property를 읽는 표현식")
+    public void propertyTest() {
+        var inventor = new Inventor("Albert Einstein", LocalDate.of(1879, 3, 14), "Germany");
+        var parser = new SpelExpressionParser();
+
+        var expression = new PrimitiveExpression(parser.parseExpression("birthdate.year > 1900"), Inventor.class);
+        assertThat(expression.isPrimitive()).isTrue();
+        assertThat(expression.evaluateBoolean(inventor)).isFalse();
+
+        // 지원하지 않는 표현식은 SpEL로 평가한다
+        var fallback = new PrimitiveExpression(parser.parseExpression("name == 'Albert Einstein'"), Inventor.class);
+        assertThat(fallback.isPrimitive()).isFalse();
+        assertThat(fallback.evaluateBoolean(inventor)).isTrue();
+    }
+
+    @Test
+    @DisplayName("public accessor만 primitive로 읽고, 나머지는 SpEL과 같이 실패")
+    public void accessorTest() {
+        var parser = new SpelExpressionParser();
+        var vault = new Vault();
+
+        var secret = parser.parseExpression("secret + 1");
+        var expression = new PrimitiveExpression(secret, Vault.class);
+        assertThat(expression.isPrimitive()).isFalse();
+        assertThatThrownBy(() -> secret.getValue(vault, Integer.class))
+                .isInstanceOf(SpelEvaluationException.class);
+        assertThatThrownBy(() -> expression.evaluateInt(vault))
+                .isInstanceOf(SpelEvaluationException.class);
+
+        // 모듈로 막힌 private 필드/메소드도 지원하지 않는 것으로 처리
+        assertThat(new PrimitiveExpression(parser.parseExpression("coder == 0"), String.class).isPrimitive())
+                .isFalse();
+
+        // getter에서 발생한 예외는 SpEL과 같은 메시지로 감싼다
+        var broken = new PrimitiveExpression(parser.parseExpression("broken > 0"), Vault.class);
+        assertThat(broken.isPrimitive()).isTrue();
+        assertThatThrownBy(() -> broken.evaluateBoolean(vault))
+                .isInstanceOfSatisfying(SpelEvaluationException.class, ex -> assertThat(ex.getMessageCode())
+                        .isEqualTo(SpelMessage.EXCEPTION_DURING_PROPERTY_READ))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("컴파일 모드 파서로 만든 표현식도 primitive로 평가하고, fallback 결과는 인터프리터와 같다")
+    public void compiledModeTest() {
+        var inventor = new Inventor("Albert Einstein", LocalDate.of(1879, 3, 14), "Germany");
+        var compiler = new SpelExpressionParser(
+                new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, this.getClass().getClassLoader()));
+        var interpreter = new SpelExpressionParser();
+
+        var expression = new PrimitiveExpression(compiler.parseExpression("birthdate.year - 1800"), Inventor.class);
+        assertThat(expression.isPrimitive()).isTrue();
+        assertThat(expression.evaluateInt(inventor)).isEqualTo(79);
+
+        var compiled = new PrimitiveExpression(compiler.parseExpression("name.length() > 5"), Inventor.class);
+        var interpreted = new PrimitiveExpression(interpreter.parseExpression("name.length() > 5"), Inventor.class);
+        assertThat(compiled.isPrimitive()).isFalse();
+        // IMMEDIATE 모드는 첫 평가 후 컴파일되므로 두 번 평가한다
+        for (int i = 0; i < 2; i++) {
+            assertThat(compiled.evaluateBoolean(inventor)).isEqualTo(interpreted.evaluateBoolean(inventor));
+        }
+    }
+
+    @Test
+    @DisplayName("평가 중에 객체를 할당하지 않는다")
+    public void allocationTest() {
+        var inventor = new Inventor("Albert Einstein", LocalDate.of(1879, 3, 14), "Germany");
+        var parser = new SpelExpressionParser();
+        var expression = new PrimitiveExpression(
+                parser.parseExpression("birthdate.year > 1900 or birthdate.year * 2 between { 3000, 4000 }"),
+                Inventor.class);
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        int count = 0;
+        for (int i = 0; i < 100_000; i++) {
+            count += expression.evaluateBoolean(inventor) ? 1 : 0;
+        }
+        var before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            count += expression.evaluateBoolean(inventor) ? 1 : 0;
+        }
+        var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(count).isEqualTo(200_000);
+        // Boolean/Integer/TypedValue를 매번 만들었다면 수 MB가 할당된다 (1 byte/op 미만)
+        assertThat(allocated).isLessThan(100_000L);
+    }
+}
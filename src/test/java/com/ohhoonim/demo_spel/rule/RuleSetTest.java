@@ -0,0 +1,114 @@
+package com.ohhoonim.demo_spel.rule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import com.ohhoonim.demo_spel.inventor.Inventor;
+import com.ohhoonim.demo_spel.inventor.PlaceOfBirth;
+import com.ohhoonim.demo_spel.inventor.Society;
+
+public class RuleSetTest {
+
+    @Test
+    @DisplayName("표현식이 읽는 property 경로 추출")
+    public void dependenciesTest() {
+        var parser = new SpelExpressionParser();
+
+        assertThat(ExpressionDependencies.of(parser.parseExpression("name == 'Nikola Tesla'")))
+                .containsExactly("name");
+        assertThat(ExpressionDependencies.of(parser.parseExpression("placeOfBirth.city.toUpperCase()")))
+                .containsExactly("placeOfBirth.city");
+        assertThat(ExpressionDependencies.of(parser.parseExpression("officers['president'].nationality")))
+                .containsExactly("officers['president'].nationality");
+        // 따옴표 없는 map key는 root property 읽기가 아니다
+        assertThat(ExpressionDependencies.of(parser.parseExpression("officers[president].name")))
+                .containsExactly("officers['president'].name");
+        // selection 안쪽의 nationality는 각 member의 property
+        assertThat(ExpressionDependencies.of(parser.parseExpression("members.?[nationality == 'Serbian'].size() > 0")))
+                .containsExactly("members");
+        // root의 메소드 호출은 무엇을 읽는지 알 수 없다
+        assertThat(ExpressionDependencies.of(parser.parseExpression("isMember('ohhoonim')")))
+                .containsExactly(ExpressionDependencies.ANY);
+    }
+
+    @Test
+    @DisplayName("Inventor 필드가 바뀌면 해당 필드를 읽는 rule만 다시 평가")
+    public void inventorChangeTest() {
+        var inventor = new Inventor("Nikola Tesla", "Serbian");
+        inventor.setPlaceOfBirth(new PlaceOfBirth("Smiljan", "Croatia"));
+
+        var parser = new SpelExpressionParser();
+        var rules = new RuleSet<>(inventor);
+        inventor.addPropertyChangeListener(rules);
+        rules.add("isTesla", parser.parseExpression("name == 'Nikola Tesla'"));
+        rules.add("isSerbian", parser.parseExpression("nationality == 'Serbian'"));
+        rules.add("city", parser.parseExpression("placeOfBirth.city"));
+
+        assertThat(rules.getResults()).containsEntry("isSerbian", true);
+
+        inventor.setNationality("American");
+
+        assertThat(rules.isCached("isTesla")).isTrue();
+        assertThat(rules.isCached("city")).isTrue();
+        assertThat(rules.isCached("isSerbian")).isFalse();
+        assertThat(rules.getResult("isSerbian", Boolean.class)).isFalse();
+
+        inventor.setPlaceOfBirth(new PlaceOfBirth("New York", "USA"));
+
+        assertThat(rules.isCached("city")).isFalse();
+        assertThat(rules.getResult("city")).isEqualTo("New York");
+    }
+
+    @Test
+    @DisplayName("Society의 멤버/임원 변경 통지")
+    public void societyChangeTest() {
+        var tesla = new Inventor("Nikola Tesla", "Serbian");
+        var curie = new Inventor("Marie Curie", "Poland");
+
+        var society = new Society();
+        society.addMember(tesla);
+        society.putOfficer(Society.PRESIDENT, curie);
+
+        var parser = new SpelExpressionParser();
+        var rules = new RuleSet<>(society);
+        society.addPropertyChangeListener(rules);
+        rules.add("serbians", parser.parseExpression("members.?[nationality == 'Serbian'].size()"));
+        rules.add("president", parser.parseExpression("officers['president'].name"));
+        rules.add("advisor", parser.parseExpression("officers['advisors']?.name"));
+
+        assertThat(rules.getResult("serbians")).isEqualTo(1);
+        assertThat(rules.getResult("president")).isEqualTo("Marie Curie");
+        assertThat(rules.getResult("advisor")).isNull();
+
+        // 멤버의 필드 변경은 society의 members 변경으로 전달된다
+        tesla.setNationality("American");
+
+        assertThat(rules.isCached("serbians")).isFalse();
+        assertThat(rules.isCached("president")).isTrue();
+        assertThat(rules.getResult("serbians")).isEqualTo(0);
+
+        society.putOfficer(Society.ADVISORS, tesla);
+
+        assertThat(rules.isCached("president")).isTrue();
+        assertThat(rules.isCached("advisor")).isFalse();
+        assertThat(rules.getResult("advisor")).isEqualTo("Nikola Tesla");
+    }
+
+    @Test
+    @DisplayName("null 멤버/임원은 상태를 바꾸기 전에 거절")
+    public void societyNullTest() {
+        var curie = new Inventor("Marie Curie", "Poland");
+        var society = new Society();
+        society.putOfficer(Society.PRESIDENT, curie);
+
+        assertThatThrownBy(() -> society.addMember(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> society.putOfficer(Society.PRESIDENT, null)).isInstanceOf(NullPointerException.class);
+
+        assertThat(society.getMembers()).isEmpty();
+        assertThat(society.getOfficers()).containsEntry(Society.PRESIDENT, curie);
+    }
+}